@@ -2,11 +2,15 @@ package api;
 
 import algorithm.SortAlgorithm;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -28,15 +32,47 @@ import visualize.SortEvent;
  *  - GET /generate?count=N&max=n
  *      -> [random unique integers in range 1..n]
  *
+ *  - POST /session?algorithm=bubble
+ *      Body: same as /run. Sorts once and keeps the array on the server.
+ *      -> same as /run plus "sessionId"
+ *
+ *  - POST /session/edit?id=...
+ *      Body: edit ops, one per line (or ';'-separated):
+ *        set <index> <value> | append <value> | remove <index>
+ *      -> {"sessionId":"...","length":N,"steps":[...]}
+ *      steps only describe the change to the previous sorted array (see SortSession).
+ *
+ *  - DELETE /session?id=...
+ *
  * CORS enabled for local React dev.
+ *
+ * Startup flags:
+ *  --warmup      run every algorithm and the JSON path on synthetic input before "ready"
+ *  --warmup-only warm up, then exit (used to record the AppCDS archive, see README)
  */
 public class ApiServer {
 
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int WARMUP_SIZE = 64;
+    private static final int WARMUP_HTTP_REQUESTS = 20;
+
+    // cleared by main for warmup, set again before the real server binds
+    private static volatile boolean firstRun = true;
+
     public static void main(String[] args) throws Exception {
         int port = 7070;
+        List<String> flags = Arrays.asList(args);
+        boolean warmupOnly = flags.contains("--warmup-only");
 
         AlgorithmRegistry registry = new AlgorithmRegistry();
-        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        SessionStore sessions = new SessionStore();
+
+        boolean warmup = warmupOnly || flags.contains("--warmup");
+        long warmupStart = System.nanoTime();
+        if (warmup) warmup(registry);
+
+        // bound only after warmup, so nothing connects to a half-warmed server
+        HttpServer server = HttpServer.create();
 
         /* =======================
          * Random Array Generator
@@ -93,7 +129,8 @@ public class ApiServer {
         /* =======================
          * Run Sorting Algorithm
          * ======================= */
-        server.createContext("/run", ex -> {
+        HttpHandler runHandler = ex -> {
+            long start = System.nanoTime();
             if (handleCors(ex)) return;
 
             if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
@@ -124,17 +161,195 @@ public class ApiServer {
             algo.sort(work, collector);
             collector.done();
 
+            boolean logFirst = firstRun;
+            if (logFirst) firstRun = false;
+
             String json = buildRunResponse(initial, work, collector.getEvents(), algo.getName(), key);
             sendJson(ex, 200, json);
+
+            if (logFirst) {
+                System.out.println("First /run handled in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        };
+        server.createContext("/run", runHandler);
+
+        /* =======================
+         * Incremental Sort Sessions
+         * ======================= */
+        server.createContext("/session", ex -> {
+            if (handleCors(ex)) return;
+
+            // contexts match by prefix; only the exact path creates sessions
+            if (!"/session".equals(ex.getRequestURI().getPath())) {
+                sendJson(ex, 404, "{\"error\":\"Not Found\"}");
+                return;
+            }
+
+            Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+
+            if ("DELETE".equalsIgnoreCase(ex.getRequestMethod())) {
+                if (!sessions.remove(query.get("id"))) {
+                    sendJson(ex, 404, "{\"error\":\"Unknown session\"}");
+                    return;
+                }
+                ex.sendResponseHeaders(204, -1);
+                ex.close();
+                return;
+            }
+
+            if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendJson(ex, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            String key = query.getOrDefault("algorithm", "bubble");
+            SortAlgorithm algo = registry.get(key);
+            if (algo == null) {
+                sendJson(ex, 400, "{\"error\":\"Unknown algorithm\"}");
+                return;
+            }
+
+            int[] initial;
+            try {
+                initial = parseArray(readAll(ex.getRequestBody()).trim());
+            } catch (IllegalArgumentException e) {
+                sendJson(ex, 400, "{\"error\":\"Invalid array\"}");
+                return;
+            }
+
+            int[] work = Arrays.copyOf(initial, initial.length);
+            EventCollector collector = new EventCollector();
+            algo.sort(work, collector);
+            collector.done();
+
+            String id = sessions.create(new SortSession(initial, work));
+            String json = buildRunResponse(initial, work, collector.getEvents(), algo.getName(), key, id);
+            sendJson(ex, 200, json);
+        });
+
+        server.createContext("/session/edit", ex -> {
+            if (handleCors(ex)) return;
+
+            if (!"/session/edit".equals(ex.getRequestURI().getPath())) {
+                sendJson(ex, 404, "{\"error\":\"Not Found\"}");
+                return;
+            }
+
+            if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendJson(ex, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            String id = parseQuery(ex.getRequestURI().getRawQuery()).get("id");
+            SortSession session = sessions.get(id);
+            if (session == null) {
+                sendJson(ex, 404, "{\"error\":\"Unknown session\"}");
+                return;
+            }
+
+            String body = readAll(ex.getRequestBody());
+            EventCollector collector = new EventCollector();
+            int length;
+            try {
+                synchronized (session) {
+                    applyEdits(session, body, collector);
+                    length = session.length();
+                }
+            } catch (IllegalArgumentException e) {
+                sendJson(ex, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+                return;
+            }
+            collector.done();
+
+            String json = "{\"sessionId\":\"" + escape(id) + "\",\"length\":" + length
+                    + ",\"steps\":" + stepsJson(collector.getEvents()) + "}";
+            sendJson(ex, 200, json);
         });
 
+        if (warmup) {
+            firstRun = false;
+            warmupHttp(runHandler);
+            System.out.println("Warmup done in " + (System.nanoTime() - warmupStart) / 1_000_000 + " ms");
+            if (warmupOnly) return;
+            firstRun = true;
+        }
+
+        server.bind(new InetSocketAddress(port), 0);
         server.setExecutor(null);
         server.start();
 
-        System.out.println("API server running on http://localhost:" + port);
+        System.out.println("API server running on http://localhost:" + port
+                + " (ready " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms after JVM start)");
         System.out.println("GET  /algorithms");
         System.out.println("POST /run?algorithm=bubble");
         System.out.println("GET  /generate?count=N&max=n");
+        System.out.println("POST /session?algorithm=bubble");
+        System.out.println("POST /session/edit?id=...");
+    }
+
+    /* =======================
+     * Warmup
+     * ======================= */
+
+    /**
+     * Runs the same path as /run and /session/edit on synthetic arrays so the
+     * sort loops, observer callbacks and JSON building are compiled before the
+     * first real request. Results are discarded.
+     */
+    private static void warmup(AlgorithmRegistry registry) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            int[] arr = RandomArrayGenerator.generate(WARMUP_SIZE, WARMUP_SIZE * 4);
+            String body = intArrayJson(arr);
+
+            for (Map.Entry<String, SortAlgorithm> ent : registry.all().entrySet()) {
+                int[] initial = parseArray(body);
+                int[] work = Arrays.copyOf(initial, initial.length);
+                EventCollector collector = new EventCollector();
+                ent.getValue().sort(work, collector);
+                collector.done();
+
+                String json = buildRunResponse(initial, work, collector.getEvents(), ent.getValue().getName(), ent.getKey());
+                json.getBytes(StandardCharsets.UTF_8);
+            }
+
+            int[] sorted = Arrays.copyOf(arr, arr.length);
+            Arrays.sort(sorted);
+            EventCollector edits = new EventCollector();
+            applyEdits(new SortSession(arr, sorted), "set 0 1\nappend 7\nappend 3\nremove 2", edits);
+            stepsJson(edits.getEvents());
+        }
+    }
+
+    /**
+     * Real /run requests through the HTTP server so its classes are loaded and
+     * compiled too. Uses a throwaway loopback server on an ephemeral port and a
+     * hand-written request over a plain Socket (no HTTP client classes).
+     */
+    private static void warmupHttp(HttpHandler runHandler) throws IOException {
+        HttpServer warm = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        warm.createContext("/run", runHandler);
+        warm.start();
+        try {
+            for (int i = 0; i < WARMUP_HTTP_REQUESTS; i++) {
+                byte[] body = intArrayJson(RandomArrayGenerator.generate(WARMUP_SIZE, WARMUP_SIZE * 4))
+                        .getBytes(StandardCharsets.UTF_8);
+                String head = "POST /run?algorithm=bubble HTTP/1.1\r\n"
+                        + "Host: localhost\r\n"
+                        + "Content-Length: " + body.length + "\r\n"
+                        + "Connection: close\r\n\r\n";
+
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), warm.getAddress().getPort())) {
+                    socket.setSoTimeout(5000);
+                    OutputStream os = socket.getOutputStream();
+                    os.write(head.getBytes(StandardCharsets.US_ASCII));
+                    os.write(body);
+                    os.flush();
+                    socket.getInputStream().readAllBytes();
+                }
+            }
+        } finally {
+            warm.stop(0);
+        }
     }
 
     /* =======================
@@ -162,7 +377,7 @@ public class ApiServer {
      * ======================= */
     private static boolean handleCors(HttpExchange ex) throws IOException {
         ex.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-        ex.getResponseHeaders().add("Access-Control-Allow-Methods", "GET,POST,OPTIONS");
+        ex.getResponseHeaders().add("Access-Control-Allow-Methods", "GET,POST,DELETE,OPTIONS");
         ex.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type");
 
         if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
@@ -216,14 +431,107 @@ public class ApiServer {
         }
     }
 
+    /**
+     * Applies edit ops in order. Consecutive appends are merged as one batch.
+     * Every op is parsed and checked against the projected length first,
+     * so a bad batch throws without changing the session.
+     */
+    static void applyEdits(SortSession session, String body, EventCollector collector) {
+        List<Edit> edits = parseEdits(body);
+
+        int len = session.currentLength();
+        for (Edit e : edits) {
+            if (e.op == Edit.Op.APPEND) {
+                len++;
+                continue;
+            }
+            if (e.index < 0 || e.index >= len) {
+                throw new IllegalArgumentException("index out of range in: " + e.source);
+            }
+            if (e.op == Edit.Op.REMOVE) len--;
+        }
+
+        List<Integer> pending = new ArrayList<>();
+        for (Edit e : edits) {
+            if (e.op == Edit.Op.APPEND) {
+                pending.add(e.value);
+                continue;
+            }
+            flushAppends(session, pending, collector);
+            if (e.op == Edit.Op.SET) session.set(e.index, e.value, collector);
+            else session.remove(e.index, collector);
+        }
+        flushAppends(session, pending, collector);
+    }
+
+    private static List<Edit> parseEdits(String body) {
+        List<Edit> edits = new ArrayList<>();
+
+        for (String line : body.split("[;\\n]")) {
+            String[] t = line.trim().split("[\\s,]+");
+            if (t.length == 0 || t[0].isEmpty()) continue;
+
+            try {
+                String op = t[0].toLowerCase(Locale.ROOT);
+                if (op.equals("append") && t.length == 2) {
+                    edits.add(new Edit(Edit.Op.APPEND, -1, Integer.parseInt(t[1]), line.trim()));
+                } else if (op.equals("set") && t.length == 3) {
+                    edits.add(new Edit(Edit.Op.SET, Integer.parseInt(t[1]), Integer.parseInt(t[2]), line.trim()));
+                } else if (op.equals("remove") && t.length == 2) {
+                    edits.add(new Edit(Edit.Op.REMOVE, Integer.parseInt(t[1]), 0, line.trim()));
+                } else {
+                    throw new IllegalArgumentException("Invalid op");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + " in: " + line.trim());
+            }
+        }
+        return edits;
+    }
+
+    /** One parsed line of a /session/edit body. */
+    private static class Edit {
+        enum Op { SET, APPEND, REMOVE }
+
+        final Op op;
+        final int index;
+        final int value;
+        final String source;
+
+        Edit(Op op, int index, int value, String source) {
+            this.op = op;
+            this.index = index;
+            this.value = value;
+            this.source = source;
+        }
+    }
+
+    private static void flushAppends(SortSession session, List<Integer> pending, EventCollector collector) {
+        if (pending.isEmpty()) return;
+        session.appendAll(pending.stream().mapToInt(Integer::intValue).toArray(), collector);
+        pending.clear();
+    }
+
     private static String buildRunResponse(int[] initial, int[] sorted, List<SortEvent> steps, String algoName, String key) {
+        return buildRunResponse(initial, sorted, steps, algoName, key, null);
+    }
+
+    private static String buildRunResponse(int[] initial, int[] sorted, List<SortEvent> steps, String algoName, String key, String sessionId) {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
+        if (sessionId != null) sb.append("\"sessionId\":\"").append(escape(sessionId)).append("\",");
         sb.append("\"algorithmKey\":\"").append(escape(key)).append("\",");
         sb.append("\"algorithmName\":\"").append(escape(algoName)).append("\",");
         sb.append("\"initial\":").append(intArrayJson(initial)).append(",");
         sb.append("\"sorted\":").append(intArrayJson(sorted)).append(",");
-        sb.append("\"steps\":[");
+        sb.append("\"steps\":").append(stepsJson(steps));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static String stepsJson(List<SortEvent> steps) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
         for (int i = 0; i < steps.size(); i++) {
             if (i > 0) sb.append(",");
             SortEvent e = steps.get(i);
@@ -234,7 +542,7 @@ public class ApiServer {
             if (e.value != null) sb.append(",\"value\":").append(e.value);
             sb.append("}");
         }
-        sb.append("]}");
+        sb.append("]");
         return sb.toString();
     }
 
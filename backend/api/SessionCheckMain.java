@@ -0,0 +1,174 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import visualize.EventCollector;
+import visualize.SortEvent;
+
+/**
+ * Randomized check for SortSession and the /session/edit batch handling.
+ * Applies random edits, replays the emitted events on the previous board the
+ * same way the frontend does, and compares the result with Arrays.sort(current()).
+ *
+ * Run: java api.SessionCheckMain [rounds]
+ */
+public class SessionCheckMain {
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random rnd = new Random(1);
+
+        for (int r = 0; r < rounds; r++) {
+            int[] data = new int[rnd.nextInt(12)];
+            for (int i = 0; i < data.length; i++) data[i] = rnd.nextInt(20);
+            int[] sorted = Arrays.copyOf(data, data.length);
+            Arrays.sort(sorted);
+
+            SortSession session = new SortSession(data, sorted);
+            List<Integer> board = new ArrayList<>();
+            for (int v : sorted) board.add(v);
+
+            for (int k = 0; k < 30; k++) {
+                EventCollector collector = new EventCollector();
+                String op = randomEdit(session, rnd, collector);
+                collector.done();
+
+                replay(board, collector.getEvents(), "round " + r + ", " + op);
+                check(board, session, "round " + r + ", " + op);
+            }
+        }
+        System.out.println("SortSession check passed (" + rounds + " rounds)");
+
+        checkBatches();
+        System.out.println("applyEdits check passed");
+    }
+
+    /* =======================
+     * applyEdits batches
+     * ======================= */
+    private static void checkBatches() {
+        int[] data = {5, 1, 4};
+
+        // a later bad op rejects the whole batch
+        expectRejected(data, "append 9\nset 99 1");
+        expectRejected(data, "set 0 2; remove 3");
+        expectRejected(data, "remove 0\nremove 0\nremove 0\nremove 0");
+
+        // bad tokens
+        expectRejected(data, "set x 1");
+        expectRejected(data, "append 99999999999");
+        expectRejected(data, "set 0 -99999999999");
+        expectRejected(data, "remove");
+        expectRejected(data, "append 1 2");
+        expectRejected(data, "frob 1");
+
+        // set on an index that only exists after an earlier append
+        SortSession session = newSession(data);
+        List<Integer> board = boardOf(session);
+        EventCollector collector = new EventCollector();
+        ApiServer.applyEdits(session, "append 9\nset 3 0", collector);
+        replay(board, collector.getEvents(), "append then set");
+        check(board, session, "append then set");
+        if (!Arrays.equals(session.current(), new int[]{5, 1, 4, 0})) {
+            throw new IllegalStateException("append then set: current " + Arrays.toString(session.current()));
+        }
+
+        // appends around other ops: batch merge plus positional ops
+        collector = new EventCollector();
+        ApiServer.applyEdits(session, "append 3;append 8;append 2\nremove 0\nappend 6\nset 1 7", collector);
+        replay(board, collector.getEvents(), "mixed batch");
+        check(board, session, "mixed batch");
+    }
+
+    private static void expectRejected(int[] data, String body) {
+        SortSession session = newSession(data);
+        EventCollector collector = new EventCollector();
+        try {
+            ApiServer.applyEdits(session, body, collector);
+        } catch (IllegalArgumentException e) {
+            int[] sorted = Arrays.copyOf(data, data.length);
+            Arrays.sort(sorted);
+            if (!Arrays.equals(session.current(), data) || !Arrays.equals(session.sorted(), sorted)
+                    || !collector.getEvents().isEmpty()) {
+                throw new IllegalStateException("rejected batch changed the session: " + body);
+            }
+            return;
+        }
+        throw new IllegalStateException("batch not rejected: " + body);
+    }
+
+    private static SortSession newSession(int[] data) {
+        int[] sorted = Arrays.copyOf(data, data.length);
+        Arrays.sort(sorted);
+        return new SortSession(data, sorted);
+    }
+
+    private static List<Integer> boardOf(SortSession session) {
+        List<Integer> board = new ArrayList<>();
+        for (int v : session.sorted()) board.add(v);
+        return board;
+    }
+
+    /* =======================
+     * Replay & random edits
+     * ======================= */
+
+    // same rules as replaySteps in the frontend
+    private static void replay(List<Integer> board, List<SortEvent> events, String what) {
+        for (SortEvent e : events) {
+            switch (e.type) {
+                case COMPARE -> {
+                    if (e.i >= board.size() || e.j >= board.size()) fail(what, "COMPARE off the board");
+                }
+                case SET -> {
+                    if (e.index >= board.size()) fail(what, "SET off the board");
+                    board.set(e.index, e.value);
+                }
+                case INSERT -> {
+                    if (e.index > board.size()) fail(what, "INSERT off the board");
+                    board.add(e.index, e.value);
+                }
+                case REMOVE -> {
+                    if (e.index >= board.size()) fail(what, "REMOVE off the board");
+                    board.remove((int) e.index);
+                }
+                case SWAP -> fail(what, "unexpected SWAP");
+                case DONE -> { }
+            }
+        }
+    }
+
+    private static void check(List<Integer> board, SortSession session, String what) {
+        int[] expected = session.current();
+        Arrays.sort(expected);
+        int[] replayed = board.stream().mapToInt(Integer::intValue).toArray();
+        if (!Arrays.equals(expected, session.sorted())) fail(what, "sorted() wrong");
+        if (!Arrays.equals(expected, replayed)) fail(what, "replay wrong");
+        if (board.size() != session.length()) fail(what, "length wrong");
+    }
+
+    private static String randomEdit(SortSession session, Random rnd, EventCollector collector) {
+        int n = session.currentLength();
+        int kind = rnd.nextInt(4);
+
+        if (kind == 0 && n > 0) {
+            int i = rnd.nextInt(n), v = rnd.nextInt(20);
+            session.set(i, v, collector);
+            return "set " + i + " " + v;
+        }
+        if (kind == 1 && n > 0) {
+            int i = rnd.nextInt(n);
+            session.remove(i, collector);
+            return "remove " + i;
+        }
+        int[] batch = new int[kind == 2 ? 1 : rnd.nextInt(4) + 1];
+        for (int i = 0; i < batch.length; i++) batch[i] = rnd.nextInt(20);
+        session.appendAll(batch, collector);
+        return "append " + Arrays.toString(batch);
+    }
+
+    private static void fail(String what, String msg) {
+        throw new IllegalStateException(what + ": " + msg);
+    }
+}
@@ -0,0 +1,35 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds live SortSessions by id.
+ * Least-recently-used sessions are dropped once MAX_SESSIONS is exceeded.
+ */
+public class SessionStore {
+
+    private static final int MAX_SESSIONS = 256;
+
+    private final Map<String, SortSession> map = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SortSession> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    public synchronized String create(SortSession session) {
+        String id = UUID.randomUUID().toString();
+        map.put(id, session);
+        return id;
+    }
+
+    public synchronized SortSession get(String id) {
+        return id == null ? null : map.get(id);
+    }
+
+    public synchronized boolean remove(String id) {
+        return id != null && map.remove(id) != null;
+    }
+}
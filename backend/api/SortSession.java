@@ -0,0 +1,202 @@
+package api;
+
+import java.util.Arrays;
+import visualize.SortObserver;
+
+/**
+ * Server-held array plus its sorted form, updated incrementally by small edits.
+ *
+ * "current" is the user's (unsorted) array, "sorted" is the sorted board the
+ * frontend replays events on. Edits never re-sort: a value is located by
+ * binary search and moved with one array copy. Each edit emits O(1)
+ * SET/INSERT/REMOVE events plus O(log n) COMPAREs, however far it moves.
+ *
+ * Event rules (replayed against the previous sorted board):
+ *  - INSERT index value: the board grows, value goes in at index.
+ *  - REMOVE index: the board shrinks, later slots move down by one.
+ *  - COMPARE is only emitted when both indices are on the board.
+ */
+public class SortSession {
+
+    private int[] current;
+    private int currentLen;
+
+    private int[] sorted;
+    private int sortedLen;
+
+    /** @param initial user's array, @param sortedForm same values already sorted */
+    public SortSession(int[] initial, int[] sortedForm) {
+        this.current = Arrays.copyOf(initial, Math.max(initial.length, 8));
+        this.currentLen = initial.length;
+        this.sorted = Arrays.copyOf(sortedForm, Math.max(sortedForm.length, 8));
+        this.sortedLen = sortedForm.length;
+    }
+
+    public int length() {
+        return sortedLen;
+    }
+
+    public int currentLength() {
+        return currentLen;
+    }
+
+    public int[] current() {
+        return Arrays.copyOf(current, currentLen);
+    }
+
+    public int[] sorted() {
+        return Arrays.copyOf(sorted, sortedLen);
+    }
+
+    /* =======================
+     * Edit operations
+     * ======================= */
+
+    /** current[index] = value; the old value is moved to its new sorted slot. */
+    public void set(int index, int value, SortObserver o) {
+        checkIndex(index);
+        int old = current[index];
+        current[index] = value;
+        if (old == value) return;
+
+        int p = find(old);
+        sorted[p] = value;
+        o.set(p, value);
+
+        int pos;
+        if (p > 0 && sorted[p - 1] > value) {
+            pos = upperBound(0, p, p, o);
+            System.arraycopy(sorted, pos, sorted, pos + 1, p - pos);
+        } else if (p < sortedLen - 1 && sorted[p + 1] < value) {
+            pos = lowerBound(p + 1, sortedLen, p, o) - 1;
+            System.arraycopy(sorted, p + 1, sorted, p, pos - p);
+        } else {
+            return;
+        }
+        sorted[pos] = value;
+        o.remove(p);
+        o.insert(pos, value);
+    }
+
+    /** Appends one value (binary insertion). */
+    public void append(int value, SortObserver o) {
+        appendCurrent(value);
+        ensureSortedCapacity(sortedLen + 1);
+
+        int n = sortedLen++;
+        sorted[n] = value;
+        o.insert(n, value);
+
+        int pos = upperBound(0, n, n, o);
+        if (pos < n) {
+            System.arraycopy(sorted, pos, sorted, pos + 1, n - pos);
+            sorted[pos] = value;
+            o.remove(n);
+            o.insert(pos, value);
+        }
+    }
+
+    /**
+     * Appends several values at once: sort the batch, then merge it into the
+     * tail of the board from the right. Only elements larger than the smallest
+     * new value move. One INSERT per new value, in ascending final position.
+     */
+    public void appendAll(int[] values, SortObserver o) {
+        if (values.length == 1) {
+            append(values[0], o);
+            return;
+        }
+        for (int v : values) appendCurrent(v);
+
+        int[] batch = Arrays.copyOf(values, values.length);
+        Arrays.sort(batch);
+        int[] pos = new int[batch.length];
+
+        ensureSortedCapacity(sortedLen + batch.length);
+        int i = sortedLen - 1;
+        int j = batch.length - 1;
+        int k = sortedLen + batch.length - 1;
+        sortedLen += batch.length;
+
+        while (j >= 0) {
+            if (i >= 0 && sorted[i] > batch[j]) {
+                sorted[k] = sorted[i--];
+            } else {
+                pos[j] = k;
+                sorted[k] = batch[j--];
+            }
+            k--;
+        }
+
+        for (int b = 0; b < batch.length; b++) {
+            o.insert(pos[b], batch[b]);
+        }
+    }
+
+    /** Removes current[index]; the value's sorted slot is closed up. */
+    public void remove(int index, SortObserver o) {
+        checkIndex(index);
+        int old = current[index];
+        System.arraycopy(current, index + 1, current, index, currentLen - index - 1);
+        currentLen--;
+
+        int p = find(old);
+        System.arraycopy(sorted, p + 1, sorted, p, sortedLen - p - 1);
+        sortedLen--;
+        o.remove(p);
+    }
+
+    /* =======================
+     * Helpers
+     * ======================= */
+
+    // index of some element equal to v in sorted (equal values are interchangeable)
+    private int find(int v) {
+        int p = Arrays.binarySearch(sorted, 0, sortedLen, v);
+        if (p < 0) throw new IllegalStateException("session out of sync");
+        return p;
+    }
+
+    // first index in [lo,hi) whose value > sorted[key]
+    private int upperBound(int lo, int hi, int key, SortObserver o) {
+        int v = sorted[key];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            o.compare(mid, key);
+            if (sorted[mid] <= v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // first index in [lo,hi) whose value >= sorted[key]
+    private int lowerBound(int lo, int hi, int key, SortObserver o) {
+        int v = sorted[key];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            o.compare(mid, key);
+            if (sorted[mid] < v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void appendCurrent(int value) {
+        if (currentLen == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[currentLen++] = value;
+    }
+
+    private void ensureSortedCapacity(int n) {
+        if (n > sorted.length) {
+            sorted = Arrays.copyOf(sorted, Math.max(n, sorted.length * 2));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= currentLen) {
+            throw new IllegalArgumentException("index out of range: " + index);
+        }
+    }
+}
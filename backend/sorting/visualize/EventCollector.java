@@ -25,6 +25,16 @@ public class EventCollector implements SortObserver {
         events.add(SortEvent.set(index, value));
     }
 
+    @Override
+    public void insert(int index, int value) {
+        events.add(SortEvent.insert(index, value));
+    }
+
+    @Override
+    public void remove(int index) {
+        events.add(SortEvent.remove(index));
+    }
+
     public void done() {
         events.add(SortEvent.done());
     }
@@ -2,14 +2,14 @@ package visualize;
 
 public class SortEvent {
 
-    public enum Type{COMPARE,SWAP,SET,DONE}
+    public enum Type{COMPARE,SWAP,SET,INSERT,REMOVE,DONE}
 
     public Type type;
 
     public Integer i;
     public Integer j;
 
-     // For SET
+     // For SET / INSERT (REMOVE uses index only)
     public Integer index;
     public Integer value;
 
@@ -38,6 +38,19 @@ public class SortEvent {
         return e;
     }
 
+    public static SortEvent insert(int index, int value) {
+        SortEvent e = new SortEvent(Type.INSERT);
+        e.index = index;
+        e.value = value;
+        return e;
+    }
+
+    public static SortEvent remove(int index) {
+        SortEvent e = new SortEvent(Type.REMOVE);
+        e.index = index;
+        return e;
+    }
+
     public static SortEvent done() {
         return new SortEvent(Type.DONE);
     }
@@ -7,5 +7,8 @@ public interface SortObserver{
     default void compare(int i, int j){}
     default void swap(int i,int j){}
     default void set(int index, int value){}
+    // For sort sessions: the board grows / shrinks at index
+    default void insert(int index, int value){}
+    default void remove(int index){}
     
 } 
\ No newline at end of file
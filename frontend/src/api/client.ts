@@ -6,6 +6,8 @@ export type Step =
   | { type: "COMPARE"; i: number; j: number }
   | { type: "SWAP"; i: number; j: number }
   | { type: "SET"; index: number; value: number }
+  | { type: "INSERT"; index: number; value: number }
+  | { type: "REMOVE"; index: number }
   | { type: "DONE" };
 
 export type RunResponse = {
@@ -32,3 +34,47 @@ export async function runSort(algorithmKey: string, array: number[]): Promise<Ru
   if (!res.ok) throw new Error(await res.text());
   return (await res.json()) as RunResponse;
 }
+
+export type SessionResponse = RunResponse & { sessionId: string };
+
+export type EditOp =
+  | { op: "set"; index: number; value: number }
+  | { op: "append"; value: number }
+  | { op: "remove"; index: number };
+
+// steps only describe the change to the previous sorted array;
+// replay them on it (INSERT/REMOVE grow and shrink it). See replaySteps in SortViz.
+export type EditResponse = {
+  sessionId: string;
+  length: number;
+  steps: Step[];
+};
+
+export async function createSession(algorithmKey: string, array: number[]): Promise<SessionResponse> {
+  const res = await fetch(`${API_BASE}/session?algorithm=${encodeURIComponent(algorithmKey)}`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify(array),
+  });
+  if (!res.ok) throw new Error(await res.text());
+  return (await res.json()) as SessionResponse;
+}
+
+export async function editSession(sessionId: string, ops: EditOp[]): Promise<EditResponse> {
+  const body = ops
+    .map((o) =>
+      o.op === "set" ? `set ${o.index} ${o.value}` : o.op === "append" ? `append ${o.value}` : `remove ${o.index}`
+    )
+    .join("\n");
+  const res = await fetch(`${API_BASE}/session/edit?id=${encodeURIComponent(sessionId)}`, {
+    method: "POST",
+    headers: { "Content-Type": "text/plain" },
+    body,
+  });
+  if (!res.ok) throw new Error(await res.text());
+  return (await res.json()) as EditResponse;
+}
+
+export async function deleteSession(sessionId: string): Promise<void> {
+  await fetch(`${API_BASE}/session?id=${encodeURIComponent(sessionId)}`, { method: "DELETE" });
+}
@@ -1,6 +1,6 @@
 import { useEffect, useMemo, useState } from "react";
-import { fetchAlgorithms, runSort } from "../api/client";
-import type { AlgoInfo, RunResponse, Step } from "../api/client";
+import { createSession, deleteSession, editSession, fetchAlgorithms } from "../api/client";
+import type { AlgoInfo, EditOp, RunResponse, Step } from "../api/client";
 
 /* =====================
  * Utility
@@ -13,10 +13,41 @@ function applyStep(arr: number[], step: Step): number[] {
     a[step.j] = t;
   } else if (step.type === "SET") {
     a[step.index] = step.value;
+  } else if (step.type === "INSERT") {
+    a.splice(step.index, 0, step.value);
+  } else if (step.type === "REMOVE") {
+    a.splice(step.index, 1);
   }
   return a;
 }
 
+// Edit steps apply to the previous sorted board (one copy, spliced in place).
+function replaySteps(board: number[], steps: Step[]): number[] {
+  const a = [...board];
+  for (const s of steps) {
+    if (s.type === "SET") a[s.index] = s.value;
+    else if (s.type === "INSERT") a.splice(s.index, 0, s.value);
+    else if (s.type === "REMOVE") a.splice(s.index, 1);
+  }
+  return a;
+}
+
+// Position-wise diff: changed slots become "set", extra slots "append",
+// missing slots "remove" from the end.
+function diffOps(before: number[], after: number[]): EditOp[] {
+  const ops: EditOp[] = [];
+  const n = Math.min(before.length, after.length);
+  for (let i = 0; i < n; i++) {
+    if (before[i] !== after[i]) ops.push({ op: "set", index: i, value: after[i] });
+  }
+  for (let i = n; i < after.length; i++) ops.push({ op: "append", value: after[i] });
+  for (let i = before.length - 1; i >= after.length; i--) ops.push({ op: "remove", index: i });
+  return ops;
+}
+
+// server-held array (see /session); `current` is what the server has, `sorted` its sorted form
+type Session = { id: string; algoKey: string; current: number[]; sorted: number[] };
+
 /* =====================
  * Component
  * ===================== */
@@ -64,6 +95,8 @@ export default function SortViz() {
   }, [input]);
 
   const [run, setRun] = useState<RunResponse | null>(null);
+  const [session, setSession] = useState<Session | null>(null);
+  const [editCount, setEditCount] = useState<number | null>(null);
   const [cursor, setCursor] = useState(0);
   const [array, setArray] = useState<number[]>([5, 1, 4, 2, 8]);
   const [highlight, setHighlight] = useState<{
@@ -151,9 +184,37 @@ export default function SortViz() {
       setError("Invalid CSV");
       return;
     }
+
+    // Same algorithm and a few edits: only replay the change on the sorted board.
+    const ops = session && session.algoKey === algoKey ? diffOps(session.current, parsed) : [];
+    if (session && ops.length > 0 && ops.length <= parsed.length / 2) {
+      try {
+        const res = await editSession(session.id, ops);
+        const sorted = replaySteps(session.sorted, res.steps);
+        setSession({ ...session, current: parsed, sorted });
+        setRun({
+          algorithmKey: session.algoKey,
+          algorithmName: run?.algorithmName ?? session.algoKey,
+          initial: session.sorted,
+          sorted,
+          steps: res.steps,
+        });
+        setEditCount(ops.length);
+        setCursor(0);
+        setArray(session.sorted);
+        setHighlight(null);
+        return;
+      } catch {
+        // session expired or rejected: fall back to a full sort below
+      }
+    }
+
     try {
-      const res = await runSort(algoKey, parsed);
+      const res = await createSession(algoKey, parsed);
+      if (session) deleteSession(session.id).catch(() => {});
+      setSession({ id: res.sessionId, algoKey, current: parsed, sorted: res.sorted });
       setRun(res);
+      setEditCount(null);
       setCursor(0);
       setArray(res.initial);
       setHighlight(null);
@@ -280,6 +341,11 @@ export default function SortViz() {
       {run && (
         <div style={{ marginTop: 10 }}>
           <b>Expected Sorted:</b> [{run.sorted.join(", ")}]
+          {editCount !== null && (
+            <div style={{ marginTop: 4 }}>
+              <b>Incremental:</b> {editCount} edit(s) applied to the previous sorted array
+            </div>
+          )}
           <div style={{ marginTop: 4 }}>
             <b>Highlight:</b>{" "}
             {highlight ? (